@@ -3,13 +3,22 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.RoundRectangle2D; // For rounded buttons
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
 import javax.sound.sampled.*;
 
 @SuppressWarnings("unused")
-public class FlappyBird extends JPanel implements ActionListener, KeyListener, MouseListener, MouseMotionListener {
+public class FlappyBird extends JPanel implements KeyListener, MouseListener, MouseMotionListener {
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
     private static final int GROUND_HEIGHT = 80; // Thicker ground
@@ -21,8 +30,19 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     private static final double GRAVITY = 0.55; // Snappier gravity
     private static final double JUMP_STRENGTH = -11;
     
-    // Game State
-    private Timer timer;
+    // Simulation rate. Physics constants are per base tick (the original 16 ms Swing timer tick)
+    // and get scaled by the step size, so gameplay is the same at any rate.
+    private static final double BASE_TICK_HZ = 1000.0 / 16;
+    private static final double SIM_HZ = doubleProperty("flappybird.simHz", BASE_TICK_HZ, 30, 1000);
+    private static final double STEP_TICKS = BASE_TICK_HZ / SIM_HZ; // Base ticks per simulation step
+    private static final long STEP_NANOS = (long)(1e9 / SIM_HZ);
+    private static final long MAX_FRAME_NANOS = 250_000_000L; // Don't spiral after a stall
+    private static final int STEPS_PER_DECISION = STEP_TICKS >= 1 ? 1 : (int)Math.round(1 / STEP_TICKS); // Autopilot
+    
+    private static final long FRAME_NANOS = 16_000_000L; // Simulation thread wakes once per frame
+    
+    // Game State (owned by the simulation thread once it is running)
+    private Thread simThread;
     private double birdY;
     private double birdVelocity;
     private ArrayList<Pipe> pipes;
@@ -34,6 +54,12 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     private boolean gamePaused;
     private boolean hardMode;
     private boolean nightMode;
+    private boolean autopilotEnabled = Boolean.getBoolean("flappybird.autopilot");
+    private Autopilot autopilot = new Autopilot();
+    private int simSteps; // Simulation steps since the current game was reset
+    private long lastFrameNanos;
+    private long stepAccumulator;
+    private int pipeGeneration; // Bumped whenever a pipe is added
     
     // Speed System
     private int speedLevel = 1; 
@@ -64,18 +90,72 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     // High Score
     private static final String HIGH_SCORE_FILE = "flappybird_highscore.dat";
     
+    // Clip restarts and high score writes can block, so the simulation thread only queues
+    // them for the I/O thread. Only the latest pending high score is written.
+    private final ConcurrentLinkedQueue<Clip> soundQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingHighScore = new AtomicInteger(-1);
+    private final Object highScoreLock = new Object();
+    private Thread ioThread;
+    
+    // Startup probe (used by build.sh training run and bench-startup.sh)
+    // "firstFrame": exit as soon as the first frame is painted
+    // "training": start a game automatically and exit once the game over screen is painted
+    private static final String STARTUP_PROBE = System.getProperty("flappybird.startupProbe", "");
+    private boolean probeExitScheduled = false;
+    
+    // Capture (see FrameCapture): "-Dflappybird.capture=<dir or .avi>" records from launch, C toggles
+    private static final String CAPTURE_TARGET = System.getProperty("flappybird.capture", "");
+    private static final double CAPTURE_FPS = 1e9 / FRAME_NANOS; // One frame per simulation frame
+    private volatile FrameCapture capture; // Read by the simulation thread to publish every frame
+    private long simFrame; // Simulation frames since launch, including skipped ones; numbers captured frames
+    private boolean headless; // Driven by runHeadless instead of the simulation thread
+    
+    // Render snapshots: the simulation thread fills the back buffer and publishes it by index.
+    // The renderer marks the front buffer as being read, and the simulation skips publishing
+    // while that would mean overwriting it. Neither side ever waits on the other.
+    private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot()};
+    private final AtomicInteger published = new AtomicInteger(0);
+    private final AtomicInteger reading = new AtomicInteger(-1);
+    private RenderSnapshot view; // Snapshot being painted (EDT only)
+    private boolean shownGameStarted, shownGameOver, shownGamePaused; // Screen last painted (EDT only)
+    
+    // Render scale: the logical WIDTH x HEIGHT scene is drawn into an accelerated offscreen buffer
+    // of renderScale device pixels per logical pixel (so 1 is 800x600 pixels even on a HiDPI
+    // display), which is then scaled once to fit the window (letterboxed) with scaleFilter.
+    // "-Dflappybird.renderScale=0.5|1|2", "-Dflappybird.scaleFilter=nearest|bilinear|bicubic",
+    // "-Dflappybird.fullscreen=true"; F cycles the filter, F11 toggles fullscreen.
+    private static final double RENDER_SCALE = doubleProperty("flappybird.renderScale", 1, 0.25, 4);
+    // Bicubic isn't accelerated: Java2D falls back to software and reads the buffer back each frame
+    private static final String[] SCALE_FILTERS = {"nearest", "bilinear", "bicubic"};
+    private static final Object[] SCALE_FILTER_HINTS = {
+        RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR,
+        RenderingHints.VALUE_INTERPOLATION_BILINEAR,
+        RenderingHints.VALUE_INTERPOLATION_BICUBIC
+    };
+    private int scaleFilter = choiceProperty("flappybird.scaleFilter", SCALE_FILTERS, 1);
+    private VolatileImage renderBuffer;
+    // Where the buffer landed on screen, for mapping mouse coordinates back to logical ones
+    private double viewX, viewY, viewScale = 1;
+    
+    // Input from the EDT to the simulation thread
+    private static final int CMD_SPACE = 0, CMD_JUMP = 1, CMD_START = 2, CMD_PAUSE = 3, CMD_RESUME = 4,
+                             CMD_RESTART = 5, CMD_MENU = 6, CMD_TOGGLE_HARD = 7, CMD_TOGGLE_NIGHT = 8,
+                             CMD_TOGGLE_SOUND = 9, CMD_TOGGLE_AUTOPILOT = 10;
+    private final ConcurrentLinkedQueue<Integer> input = new ConcurrentLinkedQueue<>();
+    
     // Buttons (Rectangles for hit detection)
     private Rectangle startBtnBound = new Rectangle(0, 0, 0, 0);
     private Rectangle hardModeBtnBound = new Rectangle(0, 0, 0, 0);
     private Rectangle nightModeBtnBound = new Rectangle(0, 0, 0, 0);
     private Rectangle soundBtnBound = new Rectangle(0, 0, 0, 0);
+    private Rectangle autopilotBtnBound = new Rectangle(0, 0, 0, 0);
     
     private Rectangle restartBtnBound = new Rectangle(0, 0, 0, 0);
     private Rectangle menuBtnBound = new Rectangle(0, 0, 0, 0);
     private Rectangle resumeBtnBound = new Rectangle(0, 0, 0, 0); // For pause screen
     
     // Hover states
-    private int hoveredButtonIndex = -1; // -1 none, 0 start, 1 hard, 2 night, 3 sound, 4 restart, 5 menu, 6 resume
+    private int hoveredButtonIndex = -1; // -1 none, 0 start, 1 hard, 2 night, 3 sound, 4 restart, 5 menu, 6 resume, 7 autopilot
 
     // Inner Classes
     private class Cloud {
@@ -99,6 +179,22 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
             this.x = x; this.height = height; this.width = width; this.type = type;
         }
     }
+    
+    // Everything paintComponent reads from one simulation frame. Arrays are reused and only
+    // grow, so publishing doesn't allocate. Trees never change after startup and are shared.
+    private class RenderSnapshot {
+        long frame;
+        double birdY, birdVelocity;
+        int birdAnimationFrame, backgroundOffset;
+        int score, highScore, speedLevel;
+        boolean gameStarted, gameOver, gamePaused;
+        boolean hardMode, nightMode, soundsEnabled, autopilotEnabled;
+        long autopilotMaxNanos;
+        Pipe[] pipes = new Pipe[0];
+        Cloud[] clouds = new Cloud[0];
+        Star[] stars = new Star[0];
+        int pipeCount, cloudCount, starCount;
+    }
 
     public FlappyBird() {
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
@@ -107,7 +203,6 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         addMouseListener(this);
         addMouseMotionListener(this);
         
-        timer = new Timer(16, this);
         random = new Random();
         
         clouds = new ArrayList<>();
@@ -121,6 +216,18 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         loadHighScore();
         loadSounds();
         resetGame();
+        publishSnapshot();
+        
+        ioThread = new Thread(this::runIo, "game-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+    
+    private void startSimulation() {
+        simThread = new Thread(this::runSimulation, "simulation");
+        simThread.setDaemon(true);
+        simThread.setPriority(Thread.MAX_PRIORITY);
+        simThread.start();
     }
     
     private void initializeClouds() {
@@ -164,11 +271,37 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     }
     
     private void saveHighScore() {
-        try {
-            DataOutputStream dos = new DataOutputStream(new FileOutputStream(HIGH_SCORE_FILE));
-            dos.writeInt(highScore);
-            dos.close();
-        } catch (IOException e) { e.printStackTrace(); }
+        pendingHighScore.set(highScore);
+        LockSupport.unpark(ioThread);
+    }
+    
+    // Writes a queued high score now; used before exiting
+    private void flushHighScore() {
+        synchronized (highScoreLock) {
+            int value = pendingHighScore.getAndSet(-1);
+            if (value < 0) return;
+            try {
+                DataOutputStream dos = new DataOutputStream(new FileOutputStream(HIGH_SCORE_FILE));
+                dos.writeInt(value);
+                dos.close();
+            } catch (IOException e) { e.printStackTrace(); }
+        }
+    }
+    
+    // I/O thread: plays queued sounds and writes the high score, sleeping when there is nothing to do
+    private void runIo() {
+        while (true) {
+            Clip sound;
+            while ((sound = soundQueue.poll()) != null) {
+                try {
+                    if (sound.isRunning()) sound.stop();
+                    sound.setFramePosition(0);
+                    sound.start();
+                } catch (Exception e) {}
+            }
+            flushHighScore();
+            LockSupport.park(); // An unpark since the checks above makes this return immediately
+        }
     }
     
     private void loadSounds() {
@@ -192,9 +325,16 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     
     private Clip loadSoundFromFile(String filename) {
         try {
+            AudioInputStream audioIn;
             File soundFile = new File(filename);
-            if (!soundFile.exists()) return null;
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundFile);
+            if (soundFile.exists()) {
+                audioIn = AudioSystem.getAudioInputStream(soundFile);
+            } else {
+                // Packaged jar: sounds are bundled next to the classes
+                URL url = FlappyBird.class.getResource("/" + filename);
+                if (url == null) return null;
+                audioIn = AudioSystem.getAudioInputStream(url);
+            }
             Clip clip = AudioSystem.getClip();
             clip.open(audioIn);
             return clip;
@@ -215,11 +355,8 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     
     private void playSound(Clip sound) {
         if (!soundsEnabled || sound == null) return;
-        try {
-            if (sound.isRunning()) sound.stop();
-            sound.setFramePosition(0);
-            sound.start();
-        } catch (Exception e) {}
+        soundQueue.offer(sound);
+        LockSupport.unpark(ioThread);
     }
     
     private void resetGame() {
@@ -232,6 +369,9 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         gamePaused = false;
         birdAnimationFrame = 0;
         speedLevel = 1;
+        simSteps = 0;
+        pipeGeneration++;
+        autopilot.reset();
         
         initializeClouds();
         initializeStars(); // Resets night mode stars correctly
@@ -241,53 +381,151 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         }
     }
     
-    private void addPipe(int x) {
+    private void addPipe(double x) {
         int minHeight = hardMode ? 80 : 120;
         int maxHeight = HEIGHT - PIPE_GAP - GROUND_HEIGHT - (hardMode ? 80 : 120);
         int pipeHeight = random.nextInt(maxHeight - minHeight) + minHeight;
         pipes.add(new Pipe(x, pipeHeight));
+        pipeGeneration++;
     }
     
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
+        
+        // Volatile images are sized in user space and get the display scale applied on top,
+        // so divide it out to end up with RENDER_SCALE device pixels per logical pixel
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        double bufferScale = RENDER_SCALE / gc.getDefaultTransform().getScaleX();
+        int bufferW = (int)Math.ceil(WIDTH * bufferScale);
+        int bufferH = (int)Math.ceil(HEIGHT * bufferScale);
+        
+        view = acquireSnapshot();
+        try {
+            // Captured once up front: redrawing a lost surface must not record the frame again.
+            // The screen still renders the scene itself, at the render scale rather than a 1x copy.
+            FrameCapture c = capture;
+            BufferedImage frame = renderCaptureFrame(c);
+            if (frame != null) c.submit(frame, view.frame);
+            do {
+                if (renderBuffer == null || renderBuffer.getWidth() != bufferW || renderBuffer.getHeight() != bufferH
+                        || renderBuffer.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    if (renderBuffer != null) renderBuffer.flush();
+                    renderBuffer = gc.createCompatibleVolatileImage(bufferW, bufferH);
+                }
+                Graphics2D bg = renderBuffer.createGraphics();
+                bg.scale(bufferScale, bufferScale);
+                renderScene(bg);
+                if (c != null) drawRecordingBadge(bg, c);
+                bg.dispose();
+            } while (renderBuffer.contentsLost());
+            
+            // Remember which screen was shown for mouse handling
+            shownGameStarted = view.gameStarted;
+            shownGameOver = view.gameOver;
+            shownGamePaused = view.gamePaused;
+        } finally {
+            reading.set(-1);
+            view = null;
+        }
+        
+        // Fit the logical frame into the panel, keeping its aspect ratio
+        viewScale = Math.min((double)getWidth() / WIDTH, (double)getHeight() / HEIGHT);
+        int destW = (int)Math.round(WIDTH * viewScale);
+        int destH = (int)Math.round(HEIGHT * viewScale);
+        viewX = (getWidth() - destW) / 2;
+        viewY = (getHeight() - destH) / 2;
+        
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, SCALE_FILTER_HINTS[scaleFilter]);
+        g2d.drawImage(renderBuffer, (int)viewX, (int)viewY, destW, destH, null);
+        onFramePainted();
+    }
+    
+    // While capturing, draws the first paint of each simulation frame into a pooled capture
+    // buffer for the caller to submit to the encoders. Returns null when not capturing, for
+    // repaints of a frame already captured (hover, key toggles) and for drops.
+    private BufferedImage renderCaptureFrame(FrameCapture c) {
+        BufferedImage frame = c != null ? c.acquire(view.frame) : null;
+        if (frame != null) {
+            Graphics2D fg = frame.createGraphics();
+            renderScene(fg);
+            fg.dispose();
+        }
+        return frame;
+    }
+    
+    // Headless: records the latest published snapshot without a screen
+    private void captureSnapshot() {
+        view = acquireSnapshot();
+        try {
+            FrameCapture c = capture;
+            BufferedImage frame = renderCaptureFrame(c);
+            if (frame != null) c.submit(frame, view.frame);
+        } finally {
+            reading.set(-1);
+            view = null;
+        }
+    }
+    
+    private void renderScene(Graphics2D g2d) {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         
         drawBackground(g2d);
         
-        for (Pipe pipe : pipes) {
-            drawPipe(g2d, pipe);
+        for (int i = 0; i < view.pipeCount; i++) {
+            drawPipe(g2d, view.pipes[i]);
         }
         
         drawGround(g2d);
         
-        if (gameStarted && !gameOver) {
+        if (view.gameStarted && !view.gameOver) {
             drawBird(g2d);
         }
         
         drawHUD(g2d);
         
-        if (!gameStarted) {
+        if (!view.gameStarted) {
             drawStartScreen(g2d);
-        } else if (gamePaused) {
+        } else if (view.gamePaused) {
             drawPauseScreen(g2d);
-        } else if (gameOver) {
+        } else if (view.gameOver) {
             drawGameOverScreen(g2d);
         }
     }
     
+    private void onFramePainted() {
+        if (STARTUP_PROBE.isEmpty() || probeExitScheduled) return;
+        if (STARTUP_PROBE.equals("firstFrame") || (STARTUP_PROBE.equals("training") && shownGameOver)) {
+            probeExitScheduled = true;
+            Toolkit.getDefaultToolkit().sync();
+            if (STARTUP_PROBE.equals("firstFrame")) {
+                // Read by bench-startup.sh; JVM start time so exit teardown isn't measured.
+                // Clock first: loading java.management for the start time must not count.
+                long now = System.currentTimeMillis();
+                long start = ManagementFactory.getRuntimeMXBean().getStartTime();
+                System.out.println("first-frame-ms=" + (now - start));
+            }
+            SwingUtilities.invokeLater(() -> System.exit(0));
+        } else if (STARTUP_PROBE.equals("training") && !shownGameStarted) {
+            input.offer(CMD_START);
+        }
+    }
+    
     private void drawBackground(Graphics2D g2d) {
         // Sky
-        if (nightMode) {
+        if (view.nightMode) {
             GradientPaint night = new GradientPaint(0, 0, new Color(20, 20, 70), 0, HEIGHT, new Color(10, 10, 30));
             g2d.setPaint(night);
             g2d.fillRect(0, 0, WIDTH, HEIGHT);
             
             // Stars
             g2d.setColor(Color.WHITE);
-            for (Star s : stars) {
+            for (int i = 0; i < view.starCount; i++) {
+                Star s = view.stars[i];
                 g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, s.brightness));
                 g2d.fillOval(s.x, s.y, s.size, s.size);
             }
@@ -308,7 +546,8 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
             g2d.fillOval(WIDTH - 160, 40, 100, 100);
             
             // Clouds
-            for (Cloud c : clouds) {
+            for (int i = 0; i < view.cloudCount; i++) {
+                Cloud c = view.clouds[i];
                 g2d.setColor(new Color(255, 255, 255, 220));
                 g2d.fillOval(c.x, c.y, c.width, c.height);
                 g2d.fillOval(c.x + c.width/3, c.y - c.height/2, c.width/2, c.height);
@@ -316,7 +555,7 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         }
         
         // Cityscape Silhouette (Far background)
-        g2d.setColor(nightMode ? new Color(10, 10, 30, 100) : new Color(150, 200, 255, 100));
+        g2d.setColor(view.nightMode ? new Color(10, 10, 30, 100) : new Color(150, 200, 255, 100));
         for (int i = 0; i < WIDTH; i+=60) {
            int h = 50 + (i % 70) + (i % 40);
            g2d.fillRect(i, HEIGHT - GROUND_HEIGHT - h, 60, h);
@@ -324,7 +563,7 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
 
         // Trees (Bottom anchored)
         for (Tree t : trees) {
-            int treeX = (t.x + backgroundOffset) % (WIDTH + 50) - 50;
+            int treeX = (t.x + view.backgroundOffset) % (WIDTH + 50) - 50;
             if (treeX < -50) treeX += WIDTH + 50;
             drawTree(g2d, treeX, HEIGHT - GROUND_HEIGHT, t.width, t.height, t.type);
         }
@@ -336,7 +575,7 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         g2d.fillRect(x + w/2 - 4, groundY - h, 8, h);
         
         // Leaves
-        g2d.setColor(nightMode ? new Color(20, 80, 30) : new Color(40, 180, 60));
+        g2d.setColor(view.nightMode ? new Color(20, 80, 30) : new Color(40, 180, 60));
         if (type == 0) { // Triangle (Pine-ish)
              g2d.fillPolygon(new int[]{x, x+w, x+w/2}, new int[]{groundY - h/3, groundY - h/3, groundY - h - 20}, 3);
              g2d.fillPolygon(new int[]{x-5, x+w+5, x+w/2}, new int[]{groundY - h/2, groundY - h/2, groundY - h - 10}, 3);
@@ -366,53 +605,54 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         // Dirt details
         g2d.setColor(new Color(180, 150, 110));
         for (int i = 0; i < WIDTH; i += 20) {
-             if (i % 3 == 0) g2d.fillRect((i + backgroundOffset) % WIDTH, HEIGHT - GROUND_HEIGHT + 25, 4, 4);
-             if (i % 4 == 0) g2d.fillRect((i + backgroundOffset + 10) % WIDTH, HEIGHT - GROUND_HEIGHT + 45, 6, 4);
+             if (i % 3 == 0) g2d.fillRect((i + view.backgroundOffset) % WIDTH, HEIGHT - GROUND_HEIGHT + 25, 4, 4);
+             if (i % 4 == 0) g2d.fillRect((i + view.backgroundOffset + 10) % WIDTH, HEIGHT - GROUND_HEIGHT + 45, 6, 4);
         }
     }
     
     private void drawPipe(Graphics2D g2d, Pipe pipe) {
         Color mainColor, darkColor, lightColor;
+        int pipeX = (int) pipe.x;
         
         // Childish/Professional colors (Vibrant but clean)
-        if (speedLevel == 3) { mainColor = new Color(220, 60, 60); } // Red
-        else if (speedLevel == 2) { mainColor = new Color(240, 160, 40); } // Orange
+        if (view.speedLevel == 3) { mainColor = new Color(220, 60, 60); } // Red
+        else if (view.speedLevel == 2) { mainColor = new Color(240, 160, 40); } // Orange
         else { mainColor = new Color(80, 200, 60); } // Green
         
         darkColor = mainColor.darker();
         lightColor = mainColor.brighter();
         
         // Top Pipe
-        g2d.setPaint(new GradientPaint(pipe.x, 0, lightColor, pipe.x + PIPE_WIDTH, 0, darkColor));
-        g2d.fillRoundRect(pipe.x, -50, PIPE_WIDTH, pipe.height + 50, 10, 10); // Rounded bottom
+        g2d.setPaint(new GradientPaint(pipeX, 0, lightColor, pipeX + PIPE_WIDTH, 0, darkColor));
+        g2d.fillRoundRect(pipeX, -50, PIPE_WIDTH, pipe.height + 50, 10, 10); // Rounded bottom
         // Cap
         g2d.setColor(darkColor);
-        g2d.fillRoundRect(pipe.x - 4, pipe.height - 25, PIPE_WIDTH + 8, 25, 5, 5);
+        g2d.fillRoundRect(pipeX - 4, pipe.height - 25, PIPE_WIDTH + 8, 25, 5, 5);
         g2d.setColor(lightColor);
-        g2d.fillRect(pipe.x - 2, pipe.height - 23, PIPE_WIDTH + 4, 3);
+        g2d.fillRect(pipeX - 2, pipe.height - 23, PIPE_WIDTH + 4, 3);
         
         // Bottom Pipe
-        int bottomY = pipe.height + (hardMode ? PIPE_GAP - 40 : PIPE_GAP);
-        g2d.setPaint(new GradientPaint(pipe.x, 0, lightColor, pipe.x + PIPE_WIDTH, 0, darkColor));
-        g2d.fillRoundRect(pipe.x, bottomY, PIPE_WIDTH, HEIGHT - bottomY - GROUND_HEIGHT + 50, 10, 10);
+        int bottomY = pipe.height + (view.hardMode ? PIPE_GAP - 40 : PIPE_GAP);
+        g2d.setPaint(new GradientPaint(pipeX, 0, lightColor, pipeX + PIPE_WIDTH, 0, darkColor));
+        g2d.fillRoundRect(pipeX, bottomY, PIPE_WIDTH, HEIGHT - bottomY - GROUND_HEIGHT + 50, 10, 10);
         // Cap
         g2d.setColor(darkColor);
-        g2d.fillRoundRect(pipe.x - 4, bottomY, PIPE_WIDTH + 8, 25, 5, 5);
+        g2d.fillRoundRect(pipeX - 4, bottomY, PIPE_WIDTH + 8, 25, 5, 5);
         g2d.setColor(lightColor);
-        g2d.fillRect(pipe.x - 2, bottomY + 2, PIPE_WIDTH + 4, 3);
+        g2d.fillRect(pipeX - 2, bottomY + 2, PIPE_WIDTH + 4, 3);
     }
     
     private void drawBird(Graphics2D g2d) {
         int birdX = WIDTH / 4 - BIRD_WIDTH / 2;
-        int birdYDraw = (int)birdY - BIRD_HEIGHT / 2;
+        int birdYDraw = (int)view.birdY - BIRD_HEIGHT / 2;
         
         AffineTransform old = g2d.getTransform();
-        g2d.rotate(Math.toRadians(Math.min(30, Math.max(-90, birdVelocity * 4))), birdX + BIRD_WIDTH/2, birdY);
+        g2d.rotate(Math.toRadians(Math.min(30, Math.max(-90, view.birdVelocity * 4))), birdX + BIRD_WIDTH/2, view.birdY);
         
         // Body
         g2d.setColor(Color.YELLOW);
-        if (speedLevel == 2) g2d.setColor(new Color(255, 200, 50));
-        if (speedLevel == 3) g2d.setColor(new Color(255, 100, 50));
+        if (view.speedLevel == 2) g2d.setColor(new Color(255, 200, 50));
+        if (view.speedLevel == 3) g2d.setColor(new Color(255, 100, 50));
         
         g2d.fillOval(birdX, birdYDraw, BIRD_WIDTH, BIRD_HEIGHT);
         
@@ -434,8 +674,8 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         // Wing (Flapping)
         g2d.setColor(new Color(240, 240, 240));
         int wingY = birdYDraw + 15;
-        if (birdAnimationFrame == 1) wingY -= 8;
-        if (birdAnimationFrame == 2) wingY += 5;
+        if (view.birdAnimationFrame == 1) wingY -= 8;
+        if (view.birdAnimationFrame == 2) wingY += 5;
         g2d.fillOval(birdX - 2, wingY, 22, 14);
         g2d.setColor(Color.BLACK);
         g2d.setStroke(new BasicStroke(1));
@@ -450,7 +690,7 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     
     private void drawHUD(Graphics2D g2d) {
         // Score
-        String scoreTxt = String.valueOf(score);
+        String scoreTxt = String.valueOf(view.score);
         g2d.setFont(new Font("Comic Sans MS", Font.BOLD, 60));
         
         // Stroke
@@ -462,6 +702,24 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         
         g2d.setColor(Color.WHITE);
         g2d.drawString(scoreTxt, WIDTH/2 - 30, 80);
+        
+        // Autopilot badge with worst search time, handy for soak runs
+        if (view.autopilotEnabled && view.gameStarted) {
+            g2d.setFont(new Font("Arial", Font.BOLD, 14));
+            g2d.setColor(Color.BLACK);
+            g2d.drawString(String.format("AUTOPILOT  max %.2f ms", view.autopilotMaxNanos / 1e6), 11, 21);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(String.format("AUTOPILOT  max %.2f ms", view.autopilotMaxNanos / 1e6), 10, 20);
+        }
+    }
+    
+    // Screen only, never part of the captured frame
+    private void drawRecordingBadge(Graphics2D g2d, FrameCapture capture) {
+        g2d.setColor(new Color(220, 30, 30));
+        g2d.fillOval(WIDTH - 130, 12, 14, 14);
+        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+        g2d.setColor(Color.WHITE);
+        g2d.drawString("REC " + capture.getWritten() + " / " + capture.getDropped() + " drop", WIDTH - 110, 24);
     }
     
     // ==================================================================================
@@ -506,20 +764,22 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         int btnH = 50;
         int centerX = WIDTH/2 - btnW/2;
         
-        startBtnBound = new Rectangle(centerX, 250, btnW, btnH);
-        hardModeBtnBound = new Rectangle(centerX, 320, btnW, btnH);
-        nightModeBtnBound = new Rectangle(centerX, 390, btnW, btnH);
-        soundBtnBound = new Rectangle(centerX, 460, btnW, btnH);
+        startBtnBound = new Rectangle(centerX, 215, btnW, btnH);
+        hardModeBtnBound = new Rectangle(centerX, 280, btnW, btnH);
+        nightModeBtnBound = new Rectangle(centerX, 345, btnW, btnH);
+        soundBtnBound = new Rectangle(centerX, 410, btnW, btnH);
+        autopilotBtnBound = new Rectangle(centerX, 475, btnW, btnH);
         
         drawButton(g2d, startBtnBound, "PLAY GAME", new Color(80, 200, 60), hoveredButtonIndex == 0);
-        drawButton(g2d, hardModeBtnBound, hardMode ? "HARD: ON" : "HARD: OFF", new Color(220, 60, 60), hoveredButtonIndex == 1);
-        drawButton(g2d, nightModeBtnBound, nightMode ? "NIGHT: ON" : "NIGHT: OFF", new Color(60, 60, 180), hoveredButtonIndex == 2);
-        drawButton(g2d, soundBtnBound, soundsEnabled ? "SOUND: ON" : "SOUND: OFF", new Color(220, 180, 40), hoveredButtonIndex == 3);
+        drawButton(g2d, hardModeBtnBound, view.hardMode ? "HARD: ON" : "HARD: OFF", new Color(220, 60, 60), hoveredButtonIndex == 1);
+        drawButton(g2d, nightModeBtnBound, view.nightMode ? "NIGHT: ON" : "NIGHT: OFF", new Color(60, 60, 180), hoveredButtonIndex == 2);
+        drawButton(g2d, soundBtnBound, view.soundsEnabled ? "SOUND: ON" : "SOUND: OFF", new Color(220, 180, 40), hoveredButtonIndex == 3);
+        drawButton(g2d, autopilotBtnBound, view.autopilotEnabled ? "AUTO: ON" : "AUTO: OFF", new Color(140, 80, 200), hoveredButtonIndex == 7);
         
         // Hint
         g2d.setColor(Color.WHITE);
         g2d.setFont(new Font("Arial", Font.ITALIC, 16));
-        g2d.drawString("Press Space or Click to Jump!", WIDTH/2 - 100, 560);
+        g2d.drawString("Press Space or Click to Jump!", WIDTH/2 - 100, 565);
     }
     
     private void drawGameOverScreen(Graphics2D g2d) {
@@ -539,8 +799,8 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         g2d.drawString("Best", WIDTH/2 - 100, 310);
         
         g2d.setFont(new Font("Arial", Font.BOLD, 30));
-        g2d.drawString(String.valueOf(score), WIDTH/2 + 50, 260);
-        g2d.drawString(String.valueOf(highScore), WIDTH/2 + 50, 310);
+        g2d.drawString(String.valueOf(view.score), WIDTH/2 + 50, 260);
+        g2d.drawString(String.valueOf(view.highScore), WIDTH/2 + 50, 310);
         
         // Buttons
         int btnW = 160;
@@ -580,8 +840,183 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     // LOGIC
     // ==================================================================================
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
+    // Simulation thread: wakes on a fixed frame schedule independent of painting, applies input,
+    // advances the game and publishes a snapshot for the renderer
+    private void runSimulation() {
+        long nextFrame = System.nanoTime();
+        lastFrameNanos = nextFrame;
+        boolean dirty = true;
+        while (true) {
+            nextFrame += FRAME_NANOS;
+            long wait;
+            while ((wait = nextFrame - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+            simFrame++;
+            if (-wait > MAX_FRAME_NANOS) { // Fell far behind, don't burst
+                nextFrame = System.nanoTime();
+                simFrame += -wait / FRAME_NANOS; // Keep the frame clock in real time for capture
+            }
+            
+            dirty |= drainInput();
+            long now = System.nanoTime();
+            long elapsed = Math.min(now - lastFrameNanos, MAX_FRAME_NANOS);
+            lastFrameNanos = now;
+            if (gameStarted && !gameOver && !gamePaused) {
+                advanceFrame(elapsed);
+                dirty = true;
+            }
+            
+            // A recording needs every frame, menus and pauses included
+            if (capture != null) dirty = true;
+            
+            // Renderer still holds the other buffer: keep the frame dirty and publish next time
+            if (dirty && publishSnapshot()) {
+                dirty = false;
+                repaint();
+            }
+        }
+    }
+    
+    private boolean drainInput() {
+        boolean any = false;
+        Integer cmd;
+        while ((cmd = input.poll()) != null) {
+            handleCommand(cmd);
+            any = true;
+        }
+        return any;
+    }
+    
+    // Commands are checked against the simulation's own state, the EDT may be a frame behind
+    private void handleCommand(int cmd) {
+        switch (cmd) {
+            case CMD_SPACE:
+                if (!gameStarted && !gameOver) startGame();
+                else if (gameStarted && !gamePaused && !gameOver) jump();
+                break;
+            case CMD_JUMP:
+                if (gameStarted && !gamePaused && !gameOver) jump();
+                break;
+            case CMD_START:
+                if (!gameStarted) startGame();
+                break;
+            case CMD_PAUSE:
+                if (gameStarted && !gameOver) gamePaused = !gamePaused;
+                break;
+            case CMD_RESUME:
+                gamePaused = false;
+                break;
+            case CMD_RESTART:
+                if (gameOver) { resetGame(); startGame(); }
+                break;
+            case CMD_MENU:
+                if (gameOver) resetGame();
+                break;
+            case CMD_TOGGLE_HARD:
+                if (!gameStarted) { hardMode = !hardMode; playSound(selectSound); }
+                break;
+            case CMD_TOGGLE_NIGHT:
+                if (!gameStarted) { nightMode = !nightMode; initializeStars(); playSound(selectSound); }
+                break;
+            case CMD_TOGGLE_SOUND:
+                soundsEnabled = !soundsEnabled; playSound(selectSound);
+                break;
+            case CMD_TOGGLE_AUTOPILOT:
+                autopilotEnabled = !autopilotEnabled; playSound(selectSound);
+                break;
+        }
+    }
+    
+    // Copies the render state into the back snapshot and makes it the front one.
+    // Returns false (nothing written) if the renderer is still reading the back buffer.
+    private boolean publishSnapshot() {
+        int back = 1 - published.get();
+        if (reading.get() == back) return false;
+        RenderSnapshot s = snapshots[back];
+        
+        s.frame = simFrame;
+        s.birdY = birdY;
+        s.birdVelocity = birdVelocity;
+        s.birdAnimationFrame = birdAnimationFrame;
+        s.backgroundOffset = backgroundOffset;
+        s.score = score;
+        s.highScore = highScore;
+        s.speedLevel = speedLevel;
+        s.gameStarted = gameStarted;
+        s.gameOver = gameOver;
+        s.gamePaused = gamePaused;
+        s.hardMode = hardMode;
+        s.nightMode = nightMode;
+        s.soundsEnabled = soundsEnabled;
+        s.autopilotEnabled = autopilotEnabled;
+        s.autopilotMaxNanos = autopilot.maxDecideNanos;
+        
+        if (s.pipes.length < pipes.size()) s.pipes = grow(s.pipes, new Pipe[pipes.size()], () -> new Pipe(0, 0));
+        s.pipeCount = pipes.size();
+        for (int i = 0; i < s.pipeCount; i++) {
+            Pipe from = pipes.get(i), to = s.pipes[i];
+            to.x = from.x; to.height = from.height; to.passed = from.passed;
+        }
+        
+        if (s.clouds.length < clouds.size()) s.clouds = grow(s.clouds, new Cloud[clouds.size()], () -> new Cloud(0, 0, 0, 0, 0));
+        s.cloudCount = clouds.size();
+        for (int i = 0; i < s.cloudCount; i++) {
+            Cloud from = clouds.get(i), to = s.clouds[i];
+            to.x = from.x; to.y = from.y; to.width = from.width; to.height = from.height; to.speed = from.speed;
+        }
+        
+        if (s.stars.length < stars.size()) s.stars = grow(s.stars, new Star[stars.size()], () -> new Star(0, 0, 0, 0));
+        s.starCount = stars.size();
+        for (int i = 0; i < s.starCount; i++) {
+            Star from = stars.get(i), to = s.stars[i];
+            to.x = from.x; to.y = from.y; to.size = from.size; to.brightness = from.brightness;
+        }
+        
+        published.set(back);
+        return true;
+    }
+    
+    // Numeric system property clamped to [min, max]; unparseable or non-finite values
+    // fall back to the default instead of failing class initialization
+    private static double doubleProperty(String name, double def, double min, double max) {
+        String value = System.getProperty(name);
+        if (value == null) return def;
+        try {
+            double d = Double.parseDouble(value.trim());
+            if (Double.isFinite(d)) return Math.max(min, Math.min(max, d));
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.err.println("Ignoring " + name + "=" + value + ", using " + def);
+        return def;
+    }
+    
+    // Index of a system property value in choices; unknown values fall back to the default
+    private static int choiceProperty(String name, String[] choices, int def) {
+        String value = System.getProperty(name);
+        if (value == null) return def;
+        int index = Arrays.asList(choices).indexOf(value.trim());
+        if (index >= 0) return index;
+        System.err.println("Ignoring " + name + "=" + value + ", using " + choices[def]);
+        return def;
+    }
+    
+    private static <T> T[] grow(T[] old, T[] bigger, Supplier<T> factory) {
+        System.arraycopy(old, 0, bigger, 0, old.length);
+        for (int i = old.length; i < bigger.length; i++) bigger[i] = factory.get();
+        return bigger;
+    }
+    
+    // Claims the front snapshot for painting; retries if the simulation published meanwhile
+    private RenderSnapshot acquireSnapshot() {
+        while (true) {
+            int front = published.get();
+            reading.set(front);
+            if (published.get() == front) return snapshots[front];
+        }
+    }
+    
+    // One frame: background animation plus the simulation steps covering elapsedNanos
+    private void advanceFrame(long elapsedNanos) {
         if (!gameStarted || gameOver || gamePaused) return;
 
         animationDelay++;
@@ -603,14 +1038,31 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
             if (c.x + c.width < 0) { c.x = WIDTH; c.y = random.nextInt(HEIGHT/3); }
         }
         
-        // Logic
-        birdVelocity += GRAVITY * (hardMode ? 1.2 : 1.0);
-        birdY += birdVelocity;
+        // Fixed-rate simulation steps for the real time that passed
+        stepAccumulator += elapsedNanos;
+        autopilot.beginFrame();
+        while (stepAccumulator >= STEP_NANOS && !gameOver) {
+            stepAccumulator -= STEP_NANOS;
+            simulateStep();
+        }
+    }
+    
+    // Advances the game by one simulation step of STEP_TICKS base ticks
+    private void simulateStep() {
+        if (autopilotEnabled && simSteps % STEPS_PER_DECISION == 0 && autopilot.shouldJump()) jump();
+        simSteps++;
+        
+        // Exact integration of the per-tick update (v += g; y += v) over a fractional step
+        double gravity = GRAVITY * (hardMode ? 1.2 : 1.0);
+        double prevBirdY = birdY;
+        birdY += birdVelocity * STEP_TICKS + gravity * STEP_TICKS * (STEP_TICKS + 1) / 2;
+        birdVelocity += gravity * STEP_TICKS;
         
         // Pipes
         for (int i = 0; i < pipes.size(); i++) {
             Pipe pipe = pipes.get(i);
-            pipe.x -= BIRD_SPEEDS[speedLevel - 1] * (hardMode ? 1.3 : 1.0);
+            double prevPipeX = pipe.x;
+            pipe.x -= BIRD_SPEEDS[speedLevel - 1] * (hardMode ? 1.3 : 1.0) * STEP_TICKS;
             
             if (!pipe.passed && pipe.x + PIPE_WIDTH < WIDTH / 4) {
                 pipe.passed = true;
@@ -630,7 +1082,7 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
                 i--;
             }
             
-            if (checkCollision(pipe)) {
+            if (checkCollision(pipe, prevPipeX, prevBirdY)) {
                triggerGameOver();
                return; // STOP IMMEDIATELY
             }
@@ -639,60 +1091,94 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
         if (birdY > HEIGHT - GROUND_HEIGHT - BIRD_HEIGHT/2 || birdY < 0) {
             triggerGameOver();
         }
-        
-        repaint();
     }
     
     private void triggerGameOver() {
         gameOver = true;
         playSound(hitSound);
-        timer.stop();
-        repaint();
     }
     
-    private boolean checkCollision(Pipe pipe) {
+    // Swept test over the whole step: the bird only moves vertically and the pipe only
+    // horizontally, so in the pipe's frame the hitbox slides along (prevPipeX - pipe.x, dy).
+    // Results don't depend on the step size and nothing tunnels through a pipe edge.
+    private boolean checkCollision(Pipe pipe, double prevPipeX, double prevBirdY) {
         // Precise Hitbox
-        Rectangle birdRect = new Rectangle(WIDTH/4 - BIRD_WIDTH/2 + 5, (int)birdY - BIRD_HEIGHT/2 + 5, BIRD_WIDTH - 10, BIRD_HEIGHT - 10);
+        double birdX = WIDTH/4 - BIRD_WIDTH/2 + 5;
+        double birdTop = prevBirdY - BIRD_HEIGHT/2 + 5;
+        double dx = prevPipeX - pipe.x;
+        double dy = birdY - prevBirdY;
         
         int gap = hardMode ? PIPE_GAP - 40 : PIPE_GAP;
         
-        Rectangle topPipeVal = new Rectangle(pipe.x, -100, PIPE_WIDTH, pipe.height + 100);
-        Rectangle botPipeVal = new Rectangle(pipe.x, pipe.height + gap, PIPE_WIDTH, 1000);
+        // Relative to the pipe's position at the start of the step
+        double relX = birdX - prevPipeX;
+        return sweptOverlap(relX, birdTop, BIRD_WIDTH - 10, BIRD_HEIGHT - 10, dx, dy, 0, -100, PIPE_WIDTH, pipe.height + 100)
+            || sweptOverlap(relX, birdTop, BIRD_WIDTH - 10, BIRD_HEIGHT - 10, dx, dy, 0, pipe.height + gap, PIPE_WIDTH, 1000);
+    }
+    
+    // Swept AABB (slab method): does box (x, y, w, h) moving by (dx, dy) during the step
+    // overlap the static box (ox, oy, ow, oh) at any time t in [0, 1]? Edges touching don't count,
+    // same as Rectangle.intersects.
+    private static boolean sweptOverlap(double x, double y, double w, double h, double dx, double dy,
+                                        double ox, double oy, double ow, double oh) {
+        double enter = 0, exit = 1;
         
-        return birdRect.intersects(topPipeVal) || birdRect.intersects(botPipeVal);
+        if (dx == 0) {
+            if (x + w <= ox || x >= ox + ow) return false;
+        } else {
+            double t0 = (ox - (x + w)) / dx, t1 = (ox + ow - x) / dx;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        
+        if (dy == 0) {
+            if (y + h <= oy || y >= oy + oh) return false;
+        } else {
+            double t0 = (oy - (y + h)) / dy, t1 = (oy + oh - y) / dy;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        
+        return enter < exit;
     }
     
     @Override
     public void mouseClicked(MouseEvent e) {
-        int mx = e.getX();
-        int my = e.getY();
+        int mx = toLogicalX(e);
+        int my = toLogicalY(e);
         
-        if (!gameStarted) {
+        if (!shownGameStarted) {
             if (startBtnBound.contains(mx, my)) {
-                startGame();
+                input.offer(CMD_START);
             } else if (hardModeBtnBound.contains(mx, my)) {
-                hardMode = !hardMode; playSound(selectSound); repaint();
+                input.offer(CMD_TOGGLE_HARD);
             } else if (nightModeBtnBound.contains(mx, my)) {
-                nightMode = !nightMode; initializeStars(); playSound(selectSound); repaint();
+                input.offer(CMD_TOGGLE_NIGHT);
             } else if (soundBtnBound.contains(mx, my)) {
-                soundsEnabled = !soundsEnabled; playSound(selectSound); repaint();
+                input.offer(CMD_TOGGLE_SOUND);
+            } else if (autopilotBtnBound.contains(mx, my)) {
+                input.offer(CMD_TOGGLE_AUTOPILOT);
             }
-        } else if (gameOver) {
+        } else if (shownGameOver) {
             if (restartBtnBound.contains(mx, my)) {
-                resetGame(); startGame();
+                input.offer(CMD_RESTART);
             } else if (menuBtnBound.contains(mx, my)) {
-                resetGame(); repaint();
+                input.offer(CMD_MENU);
             }
-        } else if (gamePaused) {
+        } else if (shownGamePaused) {
             if (resumeBtnBound.contains(mx, my)) {
-                gamePaused = false; repaint();
+                input.offer(CMD_RESUME);
             }
         } else {
             // Game playing - Click to jump
-            jump();
+            input.offer(CMD_JUMP);
         }
     }
     
+    // Window coordinates -> logical WIDTH x HEIGHT coordinates used by the button bounds
+    private int toLogicalX(MouseEvent e) { return (int)Math.floor((e.getX() - viewX) / viewScale); }
+    private int toLogicalY(MouseEvent e) { return (int)Math.floor((e.getY() - viewY) / viewScale); }
+    
     @Override
     public void mousePressed(MouseEvent e) {}
     @Override
@@ -704,20 +1190,21 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     
     @Override
     public void mouseMoved(MouseEvent e) {
-        int mx = e.getX();
-        int my = e.getY();
+        int mx = toLogicalX(e);
+        int my = toLogicalY(e);
         int oldHover = hoveredButtonIndex;
         hoveredButtonIndex = -1;
         
-        if (!gameStarted) {
+        if (!shownGameStarted) {
             if (startBtnBound.contains(mx, my)) hoveredButtonIndex = 0;
             else if (hardModeBtnBound.contains(mx, my)) hoveredButtonIndex = 1;
             else if (nightModeBtnBound.contains(mx, my)) hoveredButtonIndex = 2;
             else if (soundBtnBound.contains(mx, my)) hoveredButtonIndex = 3;
-        } else if (gameOver) {
+            else if (autopilotBtnBound.contains(mx, my)) hoveredButtonIndex = 7;
+        } else if (shownGameOver) {
             if (restartBtnBound.contains(mx, my)) hoveredButtonIndex = 4;
             else if (menuBtnBound.contains(mx, my)) hoveredButtonIndex = 5;
-        } else if (gamePaused) {
+        } else if (shownGamePaused) {
             if (resumeBtnBound.contains(mx, my)) hoveredButtonIndex = 6;
         }
         
@@ -732,12 +1219,49 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
 
     @Override
     public void keyPressed(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            if (!gameStarted && !gameOver) startGame();
-            else if (gameStarted && !gamePaused && !gameOver) jump();
+        if (e.getKeyCode() == KeyEvent.VK_SPACE) input.offer(CMD_SPACE);
+        if (e.getKeyCode() == KeyEvent.VK_P) input.offer(CMD_PAUSE);
+        if (e.getKeyCode() == KeyEvent.VK_C) {
+            if (capture != null) stopCapture();
+            else startCapture(CAPTURE_TARGET.isEmpty() ? "flappybird_" + System.currentTimeMillis() + ".avi" : CAPTURE_TARGET);
+            repaint();
         }
-        if (e.getKeyCode() == KeyEvent.VK_P && gameStarted && !gameOver) {
-            gamePaused = !gamePaused; repaint();
+        if (e.getKeyCode() == KeyEvent.VK_F) {
+            scaleFilter = (scaleFilter + 1) % SCALE_FILTERS.length; repaint();
+        }
+        if (e.getKeyCode() == KeyEvent.VK_F11) toggleFullscreen();
+    }
+    
+    private void toggleFullscreen() {
+        JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
+        GraphicsDevice device = frame.getGraphicsConfiguration().getDevice();
+        boolean fullscreen = device.getFullScreenWindow() != frame;
+        // Decorations can only change while the frame is not displayable
+        frame.dispose();
+        frame.setUndecorated(fullscreen);
+        device.setFullScreenWindow(fullscreen ? frame : null);
+        frame.setVisible(true);
+        requestFocusInWindow();
+    }
+    
+    private void startCapture(String target) {
+        try {
+            // Interactive capture drops frames rather than stalling the EDT
+            capture = new FrameCapture(target, WIDTH, HEIGHT, CAPTURE_FPS, headless);
+        } catch (IOException e) { e.printStackTrace(); }
+    }
+    
+    private void stopCapture() {
+        FrameCapture c = capture;
+        capture = null;
+        // Draining the queue can take a while, keep it off the EDT
+        Thread closer = new Thread(() -> {
+            try { c.close(); } catch (IOException e) { e.printStackTrace(); }
+            System.out.println("Captured " + c.getWritten() + " frames, dropped " + c.getDropped());
+        }, "capture-close");
+        closer.start();
+        if (headless) {
+            try { closer.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
         }
     }
 
@@ -748,7 +1272,8 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     
     private void startGame() {
         gameStarted = true;
-        timer.start();
+        lastFrameNanos = System.nanoTime();
+        stepAccumulator = 0;
         playSound(selectSound);
         jump();
     }
@@ -759,21 +1284,237 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener, M
     }
 
     private class Pipe {
-        int x, height;
+        double x;
+        int height;
         boolean passed;
-        Pipe(int x, int h) { this.x = x; this.height = h; passed = false; }
+        Pipe(double x, int h) { this.x = x; this.height = h; passed = false; }
+    }
+
+    // ==================================================================================
+    // AUTOPILOT
+    // ==================================================================================
+
+    // Picks jump / no-jump each tick by searching ahead over the known pipes with the
+    // same physics as simulateStep. Pipes move independently of the bird, so their
+    // positions are precomputed per lookahead tick and the search state is just (tick, y, v).
+    // A lookahead tick is a whole number of simulation steps, as close to one base tick as possible.
+    // Results are kept in a transposition table of quantized states that survives between
+    // ticks until the pipe layout changes. Iterative deepening stops at the time budget.
+    private class Autopilot {
+        private static final long BUDGET_NANOS = 2_000_000; // Per decision
+        private static final long FRAME_BUDGET_NANOS = 4_000_000; // All decisions of one frame, well inside 16 ms
+        private static final int MAX_HORIZON = 60; // New pipes spawn beyond this reach
+        private static final int HORIZON_STEP = 15;
+        private static final int TABLE_BITS = 16;
+        private static final double Y_QUANTUM = 0.5;
+        private static final double V_QUANTUM = 0.1;
+
+        // Per lookahead tick: allowed range for the top of the bird hitbox, jump velocity
+        private final int[] minTop = new int[MAX_HORIZON + 2];
+        private final int[] maxTop = new int[MAX_HORIZON + 2];
+        private final double[] jumpVelocity = new double[MAX_HORIZON + 2];
+        private double[] pipeX = new double[8];
+        private boolean[] pipePassed = new boolean[8];
+
+        // Transposition table: key -> (reach << 1 | died), stamped with the pipe generation
+        private final long[] tableKeys = new long[1 << TABLE_BITS];
+        private final int[] tableValues = new int[1 << TABLE_BITS];
+        private final int[] tableGen = new int[1 << TABLE_BITS];
+
+        private final double stride = STEPS_PER_DECISION * STEP_TICKS; // Base ticks per lookahead tick
+        private double gravity;
+        private int decisions;
+        private int baseTick;
+        private int horizon;
+        private long deadline;
+        private long frameDeadline;
+        private int nodes;
+        private boolean aborted;
+        long maxDecideNanos;
+
+        void reset() {
+            maxDecideNanos = 0;
+            decisions = 0;
+        }
+
+        // Catching up after a stall runs many steps in one frame; they share one budget and
+        // the ones past it only get the heuristic
+        void beginFrame() {
+            frameDeadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+        }
+
+        boolean shouldJump() {
+            long start = System.nanoTime();
+            deadline = Math.min(start + BUDGET_NANOS, frameDeadline);
+            gravity = GRAVITY * (hardMode ? 1.2 : 1.0);
+            baseTick = decisions++;
+            buildTimeline();
+
+            // Until a horizon completes, steer for the middle of the next gap
+            boolean jump = heuristicJump();
+            for (int h = HORIZON_STEP; h <= MAX_HORIZON && System.nanoTime() < deadline; h += HORIZON_STEP) {
+                horizon = h;
+                aborted = false;
+                int stay = step(1, birdY, birdVelocity, false);
+                int flap = stay >= horizon ? -1 : step(1, birdY, birdVelocity, true);
+                if (aborted) break; // Keep the answer from the last complete horizon
+                jump = flap > stay;
+                if (stay < horizon && flap < horizon) break; // Death is certain either way
+            }
+
+            maxDecideNanos = Math.max(maxDecideNanos, System.nanoTime() - start);
+            return jump;
+        }
+
+        // Replays the pipe part of actionPerformed for every lookahead tick
+        private void buildTimeline() {
+            int n = pipes.size();
+            if (pipeX.length < n) { pipeX = new double[n]; pipePassed = new boolean[n]; }
+            for (int i = 0; i < n; i++) {
+                pipeX[i] = pipes.get(i).x;
+                pipePassed[i] = pipes.get(i).passed;
+            }
+
+            int simScore = score;
+            int simLevel = speedLevel;
+            int gap = hardMode ? PIPE_GAP - 40 : PIPE_GAP;
+            int birdLeft = WIDTH/4 - BIRD_WIDTH/2 + 5;
+            int birdRight = birdLeft + BIRD_WIDTH - 10;
+
+            for (int d = 1; d <= MAX_HORIZON + 1; d++) {
+                jumpVelocity[d] = JUMP_STRENGTH * JUMP_MODIFIERS[simLevel - 1];
+                minTop[d] = Integer.MIN_VALUE;
+                maxTop[d] = Integer.MAX_VALUE;
+                for (int k = 0; k < STEPS_PER_DECISION; k++) {
+                    for (int i = 0; i < n; i++) {
+                        double prevX = pipeX[i];
+                        pipeX[i] -= BIRD_SPEEDS[simLevel - 1] * (hardMode ? 1.3 : 1.0) * STEP_TICKS;
+                        if (!pipePassed[i] && pipeX[i] + PIPE_WIDTH < WIDTH / 4) {
+                            pipePassed[i] = true;
+                            simScore++;
+                            if (simScore >= SPEED_THRESHOLDS[1]) simLevel = 3;
+                            else if (simScore >= SPEED_THRESHOLDS[0]) simLevel = 2;
+                        }
+                        // Anywhere over the x range swept during this step
+                        if (pipeX[i] < birdRight && prevX + PIPE_WIDTH > birdLeft) {
+                            int h = pipes.get(i).height;
+                            minTop[d] = Math.max(minTop[d], h);
+                            maxTop[d] = Math.min(maxTop[d], h + gap - (BIRD_HEIGHT - 10));
+                        }
+                    }
+                }
+            }
+        }
+
+        // Fallback when the search runs out of time: flap if, without flapping, the bird
+        // would sink to the bottom edge of the next gap (or below the middle of the sky).
+        // A flap rises less than the narrowest gap, so this never flies into the top pipe.
+        private boolean heuristicJump() {
+            double target = (HEIGHT - GROUND_HEIGHT) / 2.0;
+            for (int d = 1; d <= MAX_HORIZON; d++) {
+                if (maxTop[d] != Integer.MAX_VALUE) {
+                    target = maxTop[d] - 12 + BIRD_HEIGHT/2 - 5;
+                    break;
+                }
+            }
+            double next = birdY + birdVelocity * stride + gravity * stride * (stride + 1) / 2;
+            return next > target && birdVelocity > jumpVelocity[1];
+        }
+
+        // Advances one tick from (y, v) and returns the furthest lookahead tick survived
+        private int step(int d, double y, double v, boolean flap) {
+            if (flap) v = jumpVelocity[d];
+            double prevTop = y - BIRD_HEIGHT/2 + 5;
+            y += v * stride + gravity * stride * (stride + 1) / 2;
+            v += gravity * stride;
+
+            double top = y - BIRD_HEIGHT/2 + 5;
+            if (Math.min(top, prevTop) < minTop[d] || Math.max(top, prevTop) > maxTop[d]) return d - 1;
+            if (y > HEIGHT - GROUND_HEIGHT - BIRD_HEIGHT/2 || y < 0) return d - 1;
+            if (d >= horizon) return horizon;
+            return search(d + 1, y, v);
+        }
+
+        private int search(int d, double y, double v) {
+            if ((++nodes & 7) == 0 && System.nanoTime() > deadline) aborted = true;
+            if (aborted) return 0;
+
+            int tick = baseTick + d;
+            long key = ((long)tick << 32) | ((long)(int)Math.round(y / Y_QUANTUM) & 0xFFFF) << 16
+                       | ((int)Math.round(v / V_QUANTUM) & 0xFFFF);
+            int slot = (int)((key * 0x9E3779B97F4A7C15L) >>> (64 - TABLE_BITS));
+            if (tableGen[slot] == pipeGeneration && tableKeys[slot] == key) {
+                int reach = (tableValues[slot] >> 1) - baseTick;
+                boolean died = (tableValues[slot] & 1) != 0;
+                if (died) return reach;
+                if (reach >= horizon) return horizon;
+            }
+
+            int best = step(d, y, v, false);
+            if (best < horizon && v > jumpVelocity[d]) best = Math.max(best, step(d, y, v, true));
+            if (aborted) return 0;
+
+            tableGen[slot] = pipeGeneration;
+            tableKeys[slot] = key;
+            tableValues[slot] = ((baseTick + best) << 1) | (best < horizon ? 1 : 0);
+            return best;
+        }
+    }
+
+    // Headless capture: "-Dflappybird.headlessFrames=N -Dflappybird.capture=out.avi" renders N
+    // autopilot frames offscreen as fast as the encoders allow, on this thread instead of the
+    // simulation thread
+    private static void runHeadless(int frames) {
+        if (CAPTURE_TARGET.isEmpty()) {
+            System.err.println("Headless mode needs -Dflappybird.capture=<dir or .avi>");
+            System.exit(1);
+        }
+        FlappyBird game = new FlappyBird();
+        game.headless = true;
+        game.soundsEnabled = false;
+        game.autopilotEnabled = true;
+        game.startCapture(CAPTURE_TARGET);
+        if (game.capture == null) System.exit(1);
+        
+        game.startGame();
+        long frameNanos = (long)(1e9 / CAPTURE_FPS);
+        for (int i = 0; i < frames && !game.gameOver; i++) {
+            game.simFrame++;
+            game.advanceFrame(frameNanos);
+            game.publishSnapshot();
+            game.captureSnapshot();
+        }
+        game.stopCapture();
+        game.flushHighScore();
+        System.exit(0);
     }
 
     public static void main(String[] args) {
+        int headlessFrames = Integer.getInteger("flappybird.headlessFrames", 0);
+        if (headlessFrames > 0) {
+            System.setProperty("java.awt.headless", "true");
+            runHeadless(headlessFrames);
+            return;
+        }
+        
         SwingUtilities.invokeLater(() -> {
             JFrame frame = new JFrame("Flappy Bird: Kids Edition");
             FlappyBird game = new FlappyBird();
+            if (!CAPTURE_TARGET.isEmpty()) game.startCapture(CAPTURE_TARGET);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                // Finalize a recording and a high score write still pending when the window is closed
+                FrameCapture c = game.capture;
+                if (c != null) try { c.close(); } catch (IOException e) { e.printStackTrace(); }
+                game.flushHighScore();
+            }));
             frame.add(game);
             frame.pack();
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
             frame.setLocationRelativeTo(null);
-            frame.setResizable(false);
+            frame.setResizable(true);
             frame.setVisible(true);
+            if (Boolean.getBoolean("flappybird.fullscreen")) game.toggleFullscreen();
+            game.startSimulation();
         });
     }
 }
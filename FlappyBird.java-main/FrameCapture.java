@@ -0,0 +1,287 @@
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.*;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+// Records rendered frames without stalling the game loop. The painter borrows a
+// preallocated image from the pool, draws the frame into it and submits it; encoder
+// threads write it out and hand the image back. When the pool is empty the frame is
+// either dropped (interactive) or the painter waits for an encoder (headless).
+//
+// Frames are numbered by the caller's frame clock. A number is captured at most once, and
+// numbers that were skipped (pool empty, painter fell behind) count as dropped, so the
+// recording keeps real-time pacing no matter how often the painter runs.
+//
+// Target ending in ".avi" -> Motion-JPEG AVI (one encoder, frames must stay in order);
+//                            dropped frames repeat the previous one, for at most
+//                            MAX_REPEAT_SECONDS per gap (a suspend or minimized window is
+//                            cut short rather than padded with copies). AVI 1.0 sizes are
+//                            32-bit, so long recordings continue in name_002.avi, ...
+// Anything else           -> directory of frame_000000.png files (parallel encoders);
+//                            dropped frames leave gaps in the numbering
+public class FrameCapture {
+    private static final int POOL_SIZE = 8;
+    private static final int PNG_ENCODERS = 3;
+    private static final float JPEG_QUALITY = 0.9f;
+    private static final long AVI_SEGMENT_BYTES = 1L << 30; // Well below the 2 GiB RIFF limit
+    private static final double MAX_REPEAT_SECONDS = 2;
+
+    private final BlockingQueue<BufferedImage> free = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Frame> pending = new ArrayBlockingQueue<>(POOL_SIZE + PNG_ENCODERS);
+    private final boolean blockWhenFull;
+    private final Thread[] encoders;
+    private final File pngDir;
+    private final File aviTarget;
+    private final int width, height;
+    private final double fps;
+    private MjpegAviWriter avi; // Current segment, encoder thread only once started
+    private int aviSegments = 1;
+
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private volatile IOException failure;
+    private long firstFrame = -1; // Frame clock of the painter, painter thread only
+    private long lastFrame = -1;
+    private volatile boolean closed;
+
+    private static class Frame {
+        final BufferedImage image;
+        final int index;
+        final int skipped; // Frames dropped right before this one
+        Frame(BufferedImage image, int index, int skipped) { this.image = image; this.index = index; this.skipped = skipped; }
+    }
+    private static final Frame END = new Frame(null, -1, 0);
+
+    public FrameCapture(String target, int width, int height, double fps, boolean blockWhenFull) throws IOException {
+        this.blockWhenFull = blockWhenFull;
+        this.width = width;
+        this.height = height;
+        this.fps = fps;
+        for (int i = 0; i < POOL_SIZE; i++) {
+            free.add(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+        }
+
+        if (target.toLowerCase().endsWith(".avi")) {
+            pngDir = null;
+            aviTarget = new File(target);
+            avi = new MjpegAviWriter(aviTarget, width, height, fps);
+            encoders = new Thread[1];
+        } else {
+            pngDir = new File(target);
+            if (!pngDir.isDirectory() && !pngDir.mkdirs()) throw new IOException("Cannot create " + pngDir);
+            aviTarget = null;
+            avi = null;
+            encoders = new Thread[PNG_ENCODERS];
+        }
+
+        for (int i = 0; i < encoders.length; i++) {
+            encoders[i] = new Thread(this::encodeLoop, "capture-encoder-" + i);
+            encoders[i].setDaemon(true);
+            encoders[i].start();
+        }
+    }
+
+    // Returns a buffer to draw the given frame into, or null if that frame was already
+    // captured or has to be dropped
+    public BufferedImage acquire(long frame) {
+        if (closed || frame <= lastFrame) return null;
+        BufferedImage image = free.poll();
+        if (image == null && blockWhenFull) {
+            try { image = free.take(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        return image;
+    }
+
+    // Hands a buffer from acquire() to the encoders. Never blocks: the queue holds the whole pool.
+    public void submit(BufferedImage image, long frame) {
+        if (firstFrame < 0) { firstFrame = frame; lastFrame = frame - 1; }
+        int skipped = (int) Math.min(Integer.MAX_VALUE, frame - lastFrame - 1);
+        dropped.addAndGet(skipped);
+        lastFrame = frame;
+        pending.add(new Frame(image, (int) (frame - firstFrame), skipped));
+    }
+
+    public int getWritten() { return written.get(); }
+    public int getDropped() { return dropped.get(); }
+    public int getQueued() { return pending.size(); }
+
+    // Flushes queued frames, stops the encoders and finalizes the output
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        for (int i = 0; i < encoders.length; i++) {
+            try { pending.put(END); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        for (Thread t : encoders) {
+            try { t.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        if (avi != null) avi.close();
+        if (failure != null) throw failure;
+    }
+
+    private void encodeLoop() {
+        ImageWriter jpeg = avi != null ? ImageIO.getImageWritersByFormatName("jpeg").next() : null;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * 1024);
+        byte[] previous = null;
+        while (true) {
+            Frame frame;
+            try { frame = pending.take(); } catch (InterruptedException e) { return; }
+            if (frame == END) break;
+            try {
+                if (failure == null) {
+                    if (avi != null) {
+                        int repeats = Math.min(frame.skipped, (int) Math.ceil(fps * MAX_REPEAT_SECONDS));
+                        for (int i = 0; i < repeats && previous != null; i++) writeAviFrame(previous);
+                        bytes.reset();
+                        writeJpeg(jpeg, frame.image, bytes);
+                        previous = bytes.toByteArray();
+                        writeAviFrame(previous);
+                    } else {
+                        ImageIO.write(frame.image, "png", new File(pngDir, String.format("frame_%06d.png", frame.index)));
+                    }
+                    written.incrementAndGet();
+                }
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                free.add(frame.image);
+            }
+        }
+        if (jpeg != null) jpeg.dispose();
+    }
+
+    // Starts the next segment when this frame would push the current one past the limit
+    private void writeAviFrame(byte[] jpeg) throws IOException {
+        if (avi.getFrames() > 0 && avi.sizeAfter(jpeg.length) > AVI_SEGMENT_BYTES) {
+            avi.close();
+            avi = null; // Not closed again if the next segment can't be created
+            String name = aviTarget.getName();
+            int dot = name.lastIndexOf('.');
+            File next = new File(aviTarget.getParentFile(),
+                    String.format("%s_%03d%s", name.substring(0, dot), ++aviSegments, name.substring(dot)));
+            System.out.println("Recording reached " + (AVI_SEGMENT_BYTES >> 20) + " MB, continuing in " + next);
+            avi = new MjpegAviWriter(next, width, height, fps);
+        }
+        avi.writeFrame(jpeg);
+    }
+
+    private static void writeJpeg(ImageWriter writer, BufferedImage image, OutputStream out) throws IOException {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (MemoryCacheImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        }
+    }
+
+    // Minimal RIFF AVI 1.0 writer with a single MJPG video stream and an idx1 index.
+    // Header sizes and frame counts are patched in on close.
+    private static class MjpegAviWriter {
+        private static final int AVIF_HASINDEX = 0x10;
+        private static final int AVIIF_KEYFRAME = 0x10;
+
+        private final RandomAccessFile file;
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final long moviListPos; // Position of the 'movi' fourcc, idx1 offsets are relative to it
+        private int frames;
+        private int maxFrameSize;
+
+        // Header field positions patched on close
+        private long riffSizePos, avihFramesPos, avihBufferPos, strhLengthPos, strhBufferPos, moviSizePos;
+
+        MjpegAviWriter(File target, int width, int height, double fps) throws IOException {
+            file = new RandomAccessFile(target, "rw");
+            file.setLength(0);
+
+            // Rate as a fraction with millisecond precision
+            int scale = 1000;
+            int rate = (int) Math.round(fps * scale);
+
+            fourcc("RIFF"); riffSizePos = file.getFilePointer(); int32(0); fourcc("AVI ");
+
+            fourcc("LIST"); int32(4 + 8 + 56 + 8 + 4 + 8 + 56 + 8 + 40); fourcc("hdrl");
+            fourcc("avih"); int32(56);
+            int32((int) Math.round(1_000_000 / fps)); // dwMicroSecPerFrame
+            int32(0); int32(0); int32(AVIF_HASINDEX);
+            avihFramesPos = file.getFilePointer(); int32(0); // dwTotalFrames
+            int32(0); int32(1); // dwInitialFrames, dwStreams
+            avihBufferPos = file.getFilePointer(); int32(0); // dwSuggestedBufferSize
+            int32(width); int32(height);
+            int32(0); int32(0); int32(0); int32(0);
+
+            fourcc("LIST"); int32(4 + 8 + 56 + 8 + 40); fourcc("strl");
+            fourcc("strh"); int32(56);
+            fourcc("vids"); fourcc("MJPG");
+            int32(0); int16(0); int16(0); int32(0); // dwFlags, wPriority, wLanguage, dwInitialFrames
+            int32(scale); int32(rate); int32(0); // dwScale, dwRate, dwStart
+            strhLengthPos = file.getFilePointer(); int32(0); // dwLength
+            strhBufferPos = file.getFilePointer(); int32(0); // dwSuggestedBufferSize
+            int32(-1); int32(0); // dwQuality, dwSampleSize
+            int16(0); int16(0); int16(width); int16(height); // rcFrame
+
+            fourcc("strf"); int32(40); // BITMAPINFOHEADER
+            int32(40); int32(width); int32(height); int16(1); int16(24); fourcc("MJPG");
+            int32(width * height * 3); int32(0); int32(0); int32(0); int32(0);
+
+            fourcc("LIST"); moviSizePos = file.getFilePointer(); int32(0);
+            moviListPos = file.getFilePointer(); fourcc("movi");
+        }
+
+        int getFrames() { return frames; }
+
+        // File size once this frame and the index are written
+        long sizeAfter(int jpegLength) throws IOException {
+            return file.getFilePointer() + 8 + jpegLength + 1 + 8 + index.size() + 16;
+        }
+
+        void writeFrame(byte[] jpeg) throws IOException {
+            if (sizeAfter(jpeg.length) > Integer.MAX_VALUE) throw new IOException("AVI segment exceeds 2 GiB");
+            long chunkPos = file.getFilePointer();
+            fourcc("00dc"); int32(jpeg.length);
+            file.write(jpeg);
+            if ((jpeg.length & 1) != 0) file.write(0);
+
+            writeLE(index, 0x63643030); // "00dc"
+            writeLE(index, AVIIF_KEYFRAME);
+            writeLE(index, (int) (chunkPos - moviListPos));
+            writeLE(index, jpeg.length);
+
+            frames++;
+            maxFrameSize = Math.max(maxFrameSize, jpeg.length);
+        }
+
+        void close() throws IOException {
+            long moviEnd = file.getFilePointer();
+            fourcc("idx1"); int32(index.size());
+            file.write(index.toByteArray());
+            long end = file.getFilePointer();
+
+            patch(riffSizePos, (int) (end - 8));
+            patch(moviSizePos, (int) (moviEnd - moviListPos));
+            patch(avihFramesPos, frames);
+            patch(strhLengthPos, frames);
+            patch(avihBufferPos, maxFrameSize + 8);
+            patch(strhBufferPos, maxFrameSize + 8);
+            file.close();
+        }
+
+        private void patch(long pos, int value) throws IOException {
+            long here = file.getFilePointer();
+            file.seek(pos);
+            int32(value);
+            file.seek(here);
+        }
+
+        private void fourcc(String s) throws IOException { file.writeBytes(s); }
+        private void int32(int v) throws IOException { file.write(new byte[] {(byte) v, (byte) (v >> 8), (byte) (v >> 16), (byte) (v >> 24)}); }
+        private void int16(int v) throws IOException { file.write(new byte[] {(byte) v, (byte) (v >> 8)}); }
+
+        private static void writeLE(ByteArrayOutputStream out, int v) {
+            out.write(v); out.write(v >> 8); out.write(v >> 16); out.write(v >> 24);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from JVM start to the first painted frame, as reported
+# by the game itself, using the dist/ image produced by build.sh.
+#
+#   ./bench-startup.sh [runs]     (default 10 runs per configuration)
+#
+# Configurations:
+#   no-cds   -Xshare:off, every class loaded and verified from scratch
+#   base-cds default JDK archive only
+#   app-cds  base archive + dist/flappybird.jsa from the training run; -Xshare:on makes a
+#            rejected archive (other JDK, stale jar) fail instead of silently running without it
+set -euo pipefail
+
+cd "$(dirname "$0")/dist"
+RUNS=${1:-10}
+JAVA=./runtime/bin/java
+
+if [ ! -x "$JAVA" ]; then
+    echo "dist/runtime not found, run ./build.sh first" >&2
+    exit 1
+fi
+
+bench() {
+    local name=$1; shift
+    local times=()
+    for ((i = 0; i < RUNS; i++)); do
+        # The game prints the time from JVM start to its first painted frame, then exits
+        local ms
+        ms=$("$JAVA" "$@" -Dflappybird.startupProbe=firstFrame -cp flappybird.jar FlappyBird \
+             | sed -n 's/^first-frame-ms=//p')
+        if [ -z "$ms" ]; then
+            echo "$name: run $i produced no first-frame-ms line" >&2
+            return 1
+        fi
+        times+=("$ms")
+    done
+    local sorted
+    sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+    local min median max
+    min=$(echo "$sorted" | head -n 1)
+    max=$(echo "$sorted" | tail -n 1)
+    median=$(echo "$sorted" | sed -n "$(((RUNS + 1) / 2))p")
+    printf '%-9s min %5d ms   median %5d ms   max %5d ms\n' "$name" "$min" "$median" "$max"
+}
+
+echo "Time to first painted frame, $RUNS runs each"
+bench no-cds -Xshare:off
+bench base-cds -Xshare:auto
+if [ -f flappybird.jsa ]; then
+    bench app-cds -XX:SharedArchiveFile=flappybird.jsa -Xshare:on
+else
+    echo "app-cds   skipped (dist/flappybird.jsa missing, rerun build.sh with a display)"
+fi
@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Builds a fast-start distribution of Flappy Bird into dist/:
+#   dist/flappybird.jar   runnable jar (classes + sounds)
+#   dist/runtime/         trimmed jlink runtime image
+#   dist/flappybird.jsa   AppCDS archive dumped from a training run
+#   dist/flappybird       launcher that uses all of the above
+#
+# Requires JDK 13+ (dynamic AppCDS archives). The training run opens the game
+# window, so it needs a display; without one the archive step is skipped.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+BUILD=build
+DIST=dist
+
+rm -rf "$BUILD" "$DIST"
+mkdir -p "$BUILD/classes" "$DIST"
+
+echo "==> Compiling"
+javac --release 8 -d "$BUILD/classes" *.java
+cp hit.wav jump.wav score.wav select.wav "$BUILD/classes/"
+
+echo "==> Packaging $DIST/flappybird.jar"
+jar --create --file "$DIST/flappybird.jar" --main-class FlappyBird -C "$BUILD/classes" .
+
+echo "==> Linking runtime image"
+MODULES=$(jdeps --print-module-deps --ignore-missing-deps "$DIST/flappybird.jar" 2>/dev/null || echo java.desktop,java.management)
+jlink --add-modules "$MODULES" \
+      --strip-debug --no-header-files --no-man-pages --compress=2 \
+      --output "$DIST/runtime"
+# Base CDS archive for the trimmed JDK classes; the AppCDS archive layers on top
+"$DIST/runtime/bin/java" -Xshare:dump > /dev/null
+
+cat > "$DIST/flappybird" <<'EOF'
+#!/usr/bin/env bash
+DIR="$(cd "$(dirname "$0")" && pwd)"
+cd "$DIR"
+# A missing archive would turn CDS off entirely, so only name it once the training run wrote it
+CDS=()
+[ -f flappybird.jsa ] && CDS=(-XX:SharedArchiveFile=flappybird.jsa -Xshare:auto -Xlog:cds=off)
+exec ./runtime/bin/java "${CDS[@]}" -cp flappybird.jar FlappyBird "$@"
+EOF
+chmod +x "$DIST/flappybird"
+
+echo "==> Training run for AppCDS archive"
+if [ -n "${DISPLAY:-}" ] || [ "$(uname)" = "Darwin" ]; then
+    # Classpath must be recorded exactly as the launcher passes it
+    (cd "$DIST" && ./runtime/bin/java -XX:ArchiveClassesAtExit=flappybird.jsa \
+        -Dflappybird.startupProbe=training -cp flappybird.jar FlappyBird)
+    echo "    wrote $DIST/flappybird.jsa"
+else
+    echo "    no display available, skipping (launcher falls back to the base archive)"
+fi
+
+echo "==> Done. Run ./$DIST/flappybird or ./bench-startup.sh"